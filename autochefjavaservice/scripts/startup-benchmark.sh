@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Startup benchmark for the Java service.
+# Starts the service several times and records, per run:
+#   - time-to-ready: process start until /actuator/health/readiness returns 200
+#   - first-request latency: the first POST /api/v1/generate-recipe after ready
+# Each run sends a unique prompt, so the first request is always a cache miss that reaches the LLM service
+# even when Redis keeps entries between runs.
+# Readiness waits for DynamoDB and the LLM service to answer; with neither running, set
+# STARTUP_WARMUP_ENABLED=false to measure startup alone.
+#
+# Usage:
+#   ./scripts/startup-benchmark.sh jar          # plain jar from ./mvnw package
+#   ./scripts/startup-benchmark.sh fast-startup # AOT + CDS from ./mvnw -Pfast-startup package
+#
+# Environment overrides: RUNS (default 5), PORT (default 8080), PROMPT, CUISINE, JAVA_OPTS.
+
+set -euo pipefail
+
+MODE="${1:-jar}"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8080}"
+PROMPT="${PROMPT:-I have pasta and mushrooms}"
+CUISINE="${CUISINE:-ITALIAN}"
+JAR_NAME="autochefjavaservice-0.0.1-SNAPSHOT.jar"
+
+cd "$(dirname "$0")/.."
+
+case "$MODE" in
+  jar)
+    JAVA_CMD=(java ${JAVA_OPTS:-} -jar "target/$JAR_NAME")
+    ;;
+  fast-startup)
+    JAVA_CMD=(java ${JAVA_OPTS:-} -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -jar "target/cds/$JAR_NAME")
+    ;;
+  *)
+    echo "Unknown mode: $MODE (expected jar or fast-startup)" >&2
+    exit 1
+    ;;
+esac
+
+now_ms() {
+  date +%s%3N
+}
+
+total_ready=0
+total_first=0
+
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  "${JAVA_CMD[@]}" --server.port="$PORT" > "target/startup-benchmark-$MODE-$run.log" 2>&1 &
+  pid=$!
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health/readiness")" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Service exited during startup, see target/startup-benchmark-$MODE-$run.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  ready=$(( $(now_ms) - start ))
+
+  request_body="{\"prompt\": \"$PROMPT (benchmark run $run at $(now_ms))\", \"cuisine\": \"$CUISINE\"}"
+  first=$(curl -s -o /dev/null -w '%{time_total}' -X POST "http://localhost:$PORT/api/v1/generate-recipe" \
+    -H "Content-Type: application/json" -d "$request_body")
+  first_ms=$(awk "BEGIN { printf \"%d\", $first * 1000 }")
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  echo "run $run: time-to-ready ${ready} ms, first request ${first_ms} ms"
+  total_ready=$(( total_ready + ready ))
+  total_first=$(( total_first + first_ms ))
+done
+
+echo "$MODE average over $RUNS runs: time-to-ready $(( total_ready / RUNS )) ms, first request $(( total_first / RUNS )) ms"
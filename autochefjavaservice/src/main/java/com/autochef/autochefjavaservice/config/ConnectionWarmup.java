@@ -0,0 +1,145 @@
+package com.autochef.autochefjavaservice.config;
+
+import com.autochef.autochefjavaservice.service.DynamoDBService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the application back from READY until DynamoDB and the LLM service have answered once, so a freshly
+ * started task does not take traffic with cold clients or unreachable dependencies.
+ * Spring Boot keeps the readiness state at REFUSING_TRAFFIC until every {@link ApplicationRunner} has returned,
+ * so this runner simply waits for the warmups, which run in parallel on the application task executor.
+ * Both are retried at a capped backoff until they answer, so a dependency outage during a deploy delays
+ * readiness instead of leaving the task out of service for good. Redis is warmed best-effort only, since
+ * cache failures already fall back to the LLM at request time.
+ * Set {@code STARTUP_WARMUP_ENABLED=false} to skip this locally.
+ */
+@Component
+public class ConnectionWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionWarmup.class);
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final DynamoDBService dynamoDBService;
+    private final ObjectProvider<RedisConnectionFactory> redisConnectionFactoryProvider;
+    private final WebClient webClient;
+    private final AsyncTaskExecutor taskExecutor;
+    private final String llmServiceUrl;
+    private final boolean enabled;
+    private final Duration attemptTimeout;
+    // Released on shutdown so the retry loops stop instead of holding up the task executor
+    private final CountDownLatch closing = new CountDownLatch(1);
+
+    public ConnectionWarmup(DynamoDBService dynamoDBService,
+                            ObjectProvider<RedisConnectionFactory> redisConnectionFactoryProvider,
+                            WebClient webClient,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                            @Value("${llm.service.url}") String llmServiceUrl,
+                            @Value("${startup.warmup.enabled:true}") boolean enabled,
+                            @Value("${startup.warmup.attempt-timeout-seconds:5}") long attemptTimeoutSeconds) {
+        this.dynamoDBService = dynamoDBService;
+        this.redisConnectionFactoryProvider = redisConnectionFactoryProvider;
+        this.webClient = webClient;
+        this.taskExecutor = taskExecutor;
+        this.llmServiceUrl = llmServiceUrl;
+        this.enabled = enabled;
+        this.attemptTimeout = Duration.ofSeconds(attemptTimeoutSeconds);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        CompletableFuture.allOf(
+                        CompletableFuture.runAsync(() -> warmUntilAnswered("DynamoDB", this::warmDynamoDb), taskExecutor),
+                        CompletableFuture.runAsync(() -> warmUntilAnswered("LLM service", this::warmLlmService), taskExecutor),
+                        CompletableFuture.runAsync(this::warmRedis, taskExecutor))
+                .join();
+        if (closing.getCount() == 0) {
+            logger.info("Connection warmup stopped, the application is shutting down");
+            return;
+        }
+        logger.info("Connection warmup finished in {} ms, accepting traffic",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stopWarmup() {
+        closing.countDown();
+    }
+
+    private void warmUntilAnswered(String name, Runnable warmup) {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                warmup.run();
+                logger.info("Warmed up {} connection", name);
+                return;
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to warm up {} connection (attempt {}), retrying in {} ms: {}",
+                        name, attempt, backoffMillis, ex.getMessage());
+            }
+            try {
+                if (closing.await(backoffMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void warmDynamoDb() {
+        // A miss on a key that never exists still resolves credentials and opens a pooled connection.
+        // The SDK's api-call timeout bounds each attempt.
+        dynamoDBService.getRecipeById("warmup");
+    }
+
+    private void warmRedis() {
+        RedisConnectionFactory connectionFactory = redisConnectionFactoryProvider.getIfAvailable();
+        if (connectionFactory == null) {
+            return; // Redis is disabled
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+            logger.info("Warmed up Redis connection");
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to warm up Redis connection: {}", ex.getMessage());
+        }
+    }
+
+    private void warmLlmService() {
+        // The LLM service exposes /health at its root, next to the generate endpoint
+        URI healthUri = URI.create(llmServiceUrl).resolve("/health");
+        webClient.get()
+                .uri(healthUri)
+                .retrieve()
+                .toBodilessEntity()
+                .block(attemptTimeout);
+    }
+}
@@ -1,22 +1,97 @@
 package com.autochef.autochefjavaservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import org.springframework.context.annotation.Lazy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.regions.Region;
 
+import com.autochef.autochefjavaservice.entity.RecipeEntity;
+
+import java.net.URI;
+import java.time.Duration;
+
 @Configuration
+@RegisterReflectionForBinding(RecipeEntity.class) // TableSchema.fromBean reflects on the entity, also in a native image
 public class DynamoDBConfig {
 
+    @Value("${aws.region}")
+    private String region;
+
+    @Value("${aws.dynamodb.table-name}")
+    private String tableName;
+
+    // Points the client at DynamoDB Local (or any other endpoint) for load testing, blank for AWS
+    @Value("${aws.dynamodb.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.dynamodb.max-concurrency:200}")
+    private int maxConcurrency;
+
+    @Value("${aws.dynamodb.max-pending-connection-acquires:2000}")
+    private int maxPendingConnectionAcquires;
+
+    @Value("${aws.dynamodb.connection-acquisition-timeout-ms:2000}")
+    private long connectionAcquisitionTimeoutMs;
+
+    @Value("${aws.dynamodb.connection-max-idle-ms:60000}")
+    private long connectionMaxIdleMs;
+
+    @Value("${aws.dynamodb.api-call-attempt-timeout-ms:1000}")
+    private long apiCallAttemptTimeoutMs;
+
+    @Value("${aws.dynamodb.api-call-timeout-ms:3000}")
+    private long apiCallTimeoutMs;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    public DynamoDBConfig(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    // The table is only built on first use (the startup warmup), by which time the client below is ready
     @Bean
-    public DynamoDbEnhancedClient dynamoDbEnhancedClient() {
-        DynamoDbClient dynamoDbClient = DynamoDbClient.builder()
-                .region(Region.US_EAST_1)
-                .build();
-        return DynamoDbEnhancedClient.builder()
-                .dynamoDbClient(dynamoDbClient)
+    @Lazy
+    public DynamoDbAsyncTable<RecipeEntity> recipeTable(DynamoDbAsyncClient dynamoDbAsyncClient) {
+        DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient = DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
                 .build();
+        return dynamoDbEnhancedAsyncClient.table(tableName, TableSchema.fromBean(RecipeEntity.class));
+    }
+
+    // Non-blocking client on the Netty transport, so DynamoDB calls no longer hold a request thread.
+    // Building the SDK client is slow, so it is created on the bootstrap executor in parallel with the
+    // rest of the context instead of on the startup thread. Spring closes it on shutdown.
+    @Bean(bootstrap = Bean.Bootstrap.BACKGROUND)
+    public DynamoDbAsyncClient dynamoDbAsyncClient() {
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
+                .region(Region.of(region))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency)
+                        .maxPendingConnectionAcquires(maxPendingConnectionAcquires)
+                        .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquisitionTimeoutMs))
+                        .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs))
+                        .useIdleConnectionReaper(true)
+                        .tcpKeepAlive(true))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallAttemptTimeout(Duration.ofMillis(apiCallAttemptTimeoutMs))
+                        .apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs))
+                        .addMetricPublisher(new MicrometerMetricPublisher(meterRegistryProvider))
+                        .build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 
 }
@@ -0,0 +1,68 @@
+package com.autochef.autochefjavaservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+
+/**
+ * Publishes AWS SDK request metrics to Micrometer, so DynamoDB call latency, retries and
+ * connection pool pressure show up under /actuator/metrics next to the rest of the service.
+ * The registry is looked up on first use because the SDK client is built on a background thread during startup.
+ */
+public class MicrometerMetricPublisher implements MetricPublisher {
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    public MicrometerMetricPublisher(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry == null) {
+            return;
+        }
+        Tags tags = Tags.of(
+                "service", first(metricCollection, CoreMetric.SERVICE_ID, "unknown"),
+                "operation", first(metricCollection, CoreMetric.OPERATION_NAME, "unknown"),
+                "successful", String.valueOf(first(metricCollection, CoreMetric.API_CALL_SUCCESSFUL, false)));
+
+        Duration apiCallDuration = first(metricCollection, CoreMetric.API_CALL_DURATION, null);
+        if (apiCallDuration != null) {
+            meterRegistry.timer("aws.sdk.api.call", tags).record(apiCallDuration);
+        }
+        meterRegistry.counter("aws.sdk.api.call.retries", tags)
+                .increment(first(metricCollection, CoreMetric.RETRY_COUNT, 0));
+
+        // HTTP client metrics are reported per attempt, one level down in the collection tree
+        metricCollection.childrenWithName("ApiCallAttempt")
+                .flatMap(attempt -> attempt.children().stream())
+                .forEach(httpMetrics -> {
+                    Integer pending = first(httpMetrics, HttpMetric.PENDING_CONCURRENCY_ACQUIRES, null);
+                    if (pending != null) {
+                        meterRegistry.summary("aws.sdk.http.pending.acquires", tags).record(pending);
+                    }
+                    Integer leased = first(httpMetrics, HttpMetric.LEASED_CONCURRENCY, null);
+                    if (leased != null) {
+                        meterRegistry.summary("aws.sdk.http.leased.concurrency", tags).record(leased);
+                    }
+                });
+    }
+
+    @Override
+    public void close() {
+        // Meters are owned by the registry
+    }
+
+    private static <T> T first(MetricCollection metricCollection, SdkMetric<T> metric, T defaultValue) {
+        return metricCollection.metricValues(metric).stream().findFirst().orElse(defaultValue);
+    }
+}
@@ -1,11 +1,15 @@
 package com.autochef.autochefjavaservice.config;
 
+import com.autochef.autochefjavaservice.dto.RecipeRequest;
+import com.autochef.autochefjavaservice.dto.RecipeResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
+@RegisterReflectionForBinding({RecipeRequest.class, RecipeResponse.class}) // JSON bodies exchanged with the LLM service
 public class WebClientConfig {
 
     @Value("${llm.service.url}")
@@ -7,9 +7,12 @@ package com.autochef.autochefjavaservice.constants;
 public enum ErrorCode {
     INVALID_PROMPT("INVALID_PROMPT", "Prompt is required and cannot be blank."),
     INVALID_CUISINE("INVALID_CUISINE", "Cuisine is required and must be a valid enum value."),
+    INVALID_COUNT("INVALID_COUNT", "Count must be between 1 and 5."),
     BAD_REQUEST("BAD_REQUEST", "Malformed request or invalid JSON."),
     LLM_DOWN("LLM_DOWN", "Failed to reach recipe generation service."),
     LLM_TIMEOUT("LLM_TIMEOUT", "Recipe generation service timed out."),
+    RATE_LIMITED("RATE_LIMITED", "Too many recipe generation requests. Please retry later."),
+    LLM_BUSY("LLM_BUSY", "Recipe generation service is at capacity. Please retry later."),
     INTERNAL_ERROR("INTERNAL_ERROR", "An unexpected error occurred.");
 
     private final String code;
@@ -2,10 +2,13 @@ package com.autochef.autochefjavaservice.controller;
 
 import com.autochef.autochefjavaservice.dto.RecipeRequest;
 import com.autochef.autochefjavaservice.dto.RecipeResponse;
+import com.autochef.autochefjavaservice.enums.RequestPriority;
 import com.autochef.autochefjavaservice.service.RecipeService;
 import com.autochef.autochefjavaservice.service.ValidationService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,11 +25,32 @@ public class RecipeController {
     }
 
     @PostMapping("/generate-recipe")
-    public RecipeResponse generateRecipe(@RequestBody RecipeRequest request) {
+    public RecipeResponse generateRecipe(@RequestBody RecipeRequest request,
+                                         @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+                                         @RequestHeader(value = "X-Request-Priority", required = false) String priority,
+                                         HttpServletRequest httpRequest) {
         // Validate the request - will throw ValidationException if invalid
         validationService.validateRecipeRequest(request);
         
-        // Process the request - will throw DownstreamServiceException if downstream fails
-        return recipeService.generateRecipe(request);
+        // Process the request - will throw RateLimitExceededException if the client is over its budget
+        // or the LLM queue is full, and DownstreamServiceException if downstream fails
+        return recipeService.generateRecipe(request, resolveClientId(apiKey, httpRequest), RequestPriority.fromString(priority));
+    }
+
+    /**
+     * Identifies the client for rate limiting: the X-API-Key header when sent, otherwise the caller's address.
+     * Behind the ALB the address is the last X-Forwarded-For entry, which the ALB itself appends and clients cannot spoof.
+     * API keys are not authenticated yet, so a client rotating keys still gets a fresh bucket per key.
+     */
+    private String resolveClientId(String apiKey, HttpServletRequest httpRequest) {
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey.trim();
+        }
+        String forwardedFor = httpRequest.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            return "ip:" + hops[hops.length - 1].trim();
+        }
+        return "ip:" + httpRequest.getRemoteAddr();
     }
 }
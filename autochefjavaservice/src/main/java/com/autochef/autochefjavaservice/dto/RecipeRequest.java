@@ -4,15 +4,40 @@ import java.util.List;
 
 import com.autochef.autochefjavaservice.config.CuisineDeserializer;
 import com.autochef.autochefjavaservice.enums.Cuisine;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * Represents the request body for generating a new recipe.
  * This DTO defines the contract for the data clients must send.
+ * {@code count} is the number of recipe variants wanted (1 when omitted).
+ * {@code excludeTitles} is only set by this service when asking the LLM service for more variants
+ * of a cached request, so the new ones differ from those already cached; clients cannot send it.
  */
 public record RecipeRequest(
     String prompt,
     List<String> dietaryPreferences,
     @JsonDeserialize(using = CuisineDeserializer.class)
-    Cuisine cuisine
-) {}
+    Cuisine cuisine,
+    Integer count,
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<String> excludeTitles
+) {
+    public static final int MAX_COUNT = 5;
+
+    /**
+     * Returns a copy of this request asking for the given number of variants.
+     */
+    public RecipeRequest withCount(Integer count) {
+        return new RecipeRequest(prompt, dietaryPreferences, cuisine, count, excludeTitles);
+    }
+
+    /**
+     * Returns a copy of this request telling the LLM service which recipe titles not to repeat.
+     */
+    public RecipeRequest withExcludeTitles(List<String> excludeTitles) {
+        return new RecipeRequest(prompt, dietaryPreferences, cuisine, count, excludeTitles);
+    }
+}
@@ -0,0 +1,23 @@
+package com.autochef.autochefjavaservice.enums;
+
+/**
+ * Scheduling priority for LLM-bound work.
+ * Declaration order is the dispatch order: interactive requests are served before batch and warmup traffic.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BATCH,
+    WARMUP;
+
+    //Method to handle case-insensitive parsing of the priority header, defaulting to INTERACTIVE
+    public static RequestPriority fromString(String priorityStr) {
+        if (priorityStr == null) {
+            return INTERACTIVE;
+        }
+        try {
+            return RequestPriority.valueOf(priorityStr.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return INTERACTIVE; // Unknown values are treated as regular interactive traffic
+        }
+    }
+}
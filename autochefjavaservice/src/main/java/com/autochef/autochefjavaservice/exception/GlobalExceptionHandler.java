@@ -2,6 +2,7 @@ package com.autochef.autochefjavaservice.exception;
 
 import com.autochef.autochefjavaservice.dto.ErrorResponse;
 import com.autochef.autochefjavaservice.constants.ErrorCode;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -53,6 +54,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(errorResponse);
     }
 
+    /**
+     * Handles rate limit and LLM queue rejections (429/503) with a Retry-After header
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException ex) {
+        HttpStatus status = ex.getErrorCode() == ErrorCode.LLM_BUSY ?
+                HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),                        // 429 or 503
+                ex.getErrorCode().getCode(),           // "RATE_LIMITED" or "LLM_BUSY"
+                ex.getMessage()                        // Message from ErrorCode
+        );
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     /**
      * Handles all other unexpected exceptions (500 Internal Server Error)
      */
@@ -0,0 +1,27 @@
+package com.autochef.autochefjavaservice.exception;
+
+import com.autochef.autochefjavaservice.constants.ErrorCode;
+
+/**
+ * Exception thrown when LLM-bound work is rejected by the rate limiter or the LLM work queue.
+ * Carries the number of seconds the client should wait before retrying.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(ErrorCode errorCode, long retryAfterSeconds) {
+        super(errorCode.getMessage());
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,42 +1,55 @@
 package com.autochef.autochefjavaservice.service;
 
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import com.autochef.autochefjavaservice.entity.RecipeEntity;
 
+import reactor.core.publisher.Flux;
+
 @Service
 public class DynamoDBService {
     // This class will contain methods to interact with DynamoDB
     // such as saving a recipe, retrieving a recipe, etc.
-
-    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    // The async variants never block the calling thread; the plain ones wait for the result.
 
     // Creating RecipeEntity reference
-     private final DynamoDbTable<RecipeEntity> recipeTable;
+    // Injected lazily so startup does not wait for the table bean to finish initializing in the background
+    private final DynamoDbAsyncTable<RecipeEntity> recipeTable;
 
-    public DynamoDBService(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
-        this.dynamoDbEnhancedClient = dynamoDbEnhancedClient;
-        this.recipeTable = dynamoDbEnhancedClient.table("AutoChef-Recipes", TableSchema.fromBean(RecipeEntity.class));
+    public DynamoDBService(@Lazy DynamoDbAsyncTable<RecipeEntity> recipeTable) {
+        this.recipeTable = recipeTable;
     }
 
     // Method to save a recipe
     public void saveRecipe(RecipeEntity recipe) {
-        recipeTable.putItem(recipe);
+        saveRecipeAsync(recipe).join();
+    }
+
+    public CompletableFuture<Void> saveRecipeAsync(RecipeEntity recipe) {
+        return recipeTable.putItem(recipe);
     }
 
     // Method to retrieve a recipe by ID
     public RecipeEntity getRecipeById(String recipeId) {
+        return getRecipeByIdAsync(recipeId).join();
+    }
+
+    public CompletableFuture<RecipeEntity> getRecipeByIdAsync(String recipeId) {
         return recipeTable.getItem(r -> r.key(k -> k.partitionValue(recipeId)));
     }
 
     // Method to get all recipes
     public List<RecipeEntity> getAllRecipes() {
-        return recipeTable.scan().items().stream().toList();
+        return getAllRecipesFlux().collectList().block();
+    }
+
+    public Flux<RecipeEntity> getAllRecipesFlux() {
+        return Flux.from(recipeTable.scan().items());
     }
 }
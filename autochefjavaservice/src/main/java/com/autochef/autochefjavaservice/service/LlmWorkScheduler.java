@@ -0,0 +1,117 @@
+package com.autochef.autochefjavaservice.service;
+
+import com.autochef.autochefjavaservice.constants.ErrorCode;
+import com.autochef.autochefjavaservice.enums.RequestPriority;
+import com.autochef.autochefjavaservice.exception.RateLimitExceededException;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded priority queue in front of the LLM service.
+ * A fixed pool of workers drains the queue in {@link RequestPriority} order (FIFO within a priority),
+ * so interactive traffic is not stuck behind batch or warmup work. Submissions beyond the queue
+ * capacity are rejected instead of piling up. Batch and warmup work each have their own, smaller cap,
+ * so they can never fill the whole queue and the remaining slots are kept for interactive requests.
+ */
+@Service
+public class LlmWorkScheduler {
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<RequestPriority, AtomicInteger> queuedByPriority = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Integer> capacityByPriority = new EnumMap<>(RequestPriority.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+
+    public LlmWorkScheduler(@Value("${llm.queue.workers:16}") int workers,
+                            @Value("${llm.queue.capacity:200}") int queueCapacity,
+                            @Value("${llm.queue.batch-capacity:100}") int batchCapacity,
+                            @Value("${llm.queue.warmup-capacity:20}") int warmupCapacity,
+                            @Value("${llm.queue.retry-after-seconds:5}") long retryAfterSeconds) {
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        capacityByPriority.put(RequestPriority.INTERACTIVE, queueCapacity);
+        capacityByPriority.put(RequestPriority.BATCH, Math.min(batchCapacity, queueCapacity));
+        capacityByPriority.put(RequestPriority.WARMUP, Math.min(warmupCapacity, queueCapacity));
+        for (RequestPriority priority : RequestPriority.values()) {
+            queuedByPriority.put(priority, new AtomicInteger());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "llm-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues LLM-bound work at the given priority.
+     *
+     * @param priority the scheduling priority of the work
+     * @param work the call to run on an LLM worker thread
+     * @return a future completing with the work's result
+     * @throws RateLimitExceededException if the queue, or this priority's share of it, is full
+     */
+    public <T> Future<T> submit(RequestPriority priority, Callable<T> work) {
+        AtomicInteger queuedAtPriority = queuedByPriority.get(priority);
+        if (queuedAtPriority.incrementAndGet() > capacityByPriority.get(priority)) {
+            queuedAtPriority.decrementAndGet();
+            throw new RateLimitExceededException(ErrorCode.LLM_BUSY, retryAfterSeconds);
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            queuedAtPriority.decrementAndGet();
+            throw new RateLimitExceededException(ErrorCode.LLM_BUSY, retryAfterSeconds);
+        }
+        PrioritizedTask<T> task = new PrioritizedTask<>(priority, sequence.getAndIncrement(), work);
+        executor.execute(task);
+        return task;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+
+        private final RequestPriority priority;
+        private final long sequenceNumber;
+
+        PrioritizedTask(RequestPriority priority, long sequenceNumber, Callable<T> work) {
+            super(work);
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public void run() {
+            // The task has left the queue once a worker picks it up
+            queued.decrementAndGet();
+            queuedByPriority.get(priority).decrementAndGet();
+            super.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
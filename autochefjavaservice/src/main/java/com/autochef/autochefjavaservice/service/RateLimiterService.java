@@ -0,0 +1,277 @@
+package com.autochef.autochefjavaservice.service;
+
+import com.autochef.autochefjavaservice.constants.ErrorCode;
+import com.autochef.autochefjavaservice.exception.RateLimitExceededException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token bucket rate limiter for LLM-bound work.
+ * Buckets live in local memory and are updated with lock-free CAS loops, so the check never leaves the JVM.
+ * Consumption is periodically pushed to Redis so that a client spread across several tasks is still held
+ * to one cluster-wide budget.
+ */
+@Service
+public class RateLimiterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
+    private static final String REDIS_KEY_PREFIX = "ratelimit:";
+    // Shared by every new client once the map is full, so memory stays bounded and a flood of made-up keys is still limited
+    static final String OVERFLOW_CLIENT_ID = "overflow";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final boolean enabled;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final long windowSeconds;
+    private final int maxClients;
+    private final LongSupplier nanoClock;
+    private final LongSupplier millisClock;
+
+    @Autowired
+    public RateLimiterService(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                              @Value("${llm.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${llm.rate-limit.capacity:20}") double capacity,
+                              @Value("${llm.rate-limit.refill-per-second:0.5}") double refillPerSecond,
+                              @Value("${llm.rate-limit.redis-window-seconds:60}") long windowSeconds,
+                              @Value("${llm.rate-limit.max-clients:10000}") int maxClients) {
+        this(redisTemplateProvider, enabled, capacity, refillPerSecond, windowSeconds, maxClients,
+                System::nanoTime, System::currentTimeMillis);
+    }
+
+    RateLimiterService(ObjectProvider<StringRedisTemplate> redisTemplateProvider, boolean enabled, double capacity,
+                       double refillPerSecond, long windowSeconds, int maxClients,
+                       LongSupplier nanoClock, LongSupplier millisClock) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.windowSeconds = windowSeconds;
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+        this.millisClock = millisClock;
+    }
+
+    /**
+     * Takes one token per LLM-generated recipe from the caller's bucket, all or nothing.
+     * Only LLM-bound work (cache misses) should call this, so cache hits stay free.
+     *
+     * @param clientId the client's API key or address
+     * @param permits number of tokens to take
+     * @throws RateLimitExceededException if the bucket does not hold enough tokens
+     */
+    public void acquire(String clientId, int permits) {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long retryAfterSeconds = bucketFor(clientId, now).tryConsume(now, permits);
+        if (retryAfterSeconds > 0) {
+            throw new RateLimitExceededException(ErrorCode.RATE_LIMITED, retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Gives back tokens taken by {@link #acquire(String, int)} for work that never ran or failed downstream,
+     * so clients are not charged for LLM calls they did not get.
+     *
+     * @param clientId the client's API key or address
+     * @param permits number of tokens to give back
+     */
+    public void release(String clientId, int permits) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            bucket = buckets.get(OVERFLOW_CLIENT_ID);
+        }
+        if (bucket != null) {
+            bucket.refund(nanoClock.getAsLong(), permits);
+        }
+    }
+
+    private TokenBucket bucketFor(String clientId, long now) {
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        // The size check is not atomic with the insert, so the map can overshoot by a few concurrent newcomers
+        String bucketId = buckets.size() < maxClients ? clientId : OVERFLOW_CLIENT_ID;
+        return buckets.computeIfAbsent(bucketId, key -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    /**
+     * Pushes locally consumed tokens to Redis and drains any local bucket whose key has used up
+     * its cluster-wide allowance for the current window. Idle, full buckets are dropped whether or not
+     * they are synced. The first Redis failure ends the Redis part of the pass, so an unreachable Redis
+     * costs one timeout per pass rather than one per bucket.
+     */
+    @Scheduled(fixedDelayString = "${llm.rate-limit.sync-interval-ms:5000}")
+    public void syncWithRedis() {
+        if (!enabled || buckets.isEmpty()) {
+            return;
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        long now = nanoClock.getAsLong();
+        long window = millisClock.getAsLong() / TimeUnit.SECONDS.toMillis(windowSeconds);
+        long clusterAllowance = (long) (capacity + refillPerSecond * windowSeconds);
+        boolean redisReachable = redisTemplate != null;
+
+        for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+            TokenBucket bucket = entry.getValue();
+            if (redisReachable) {
+                redisReachable = syncBucket(redisTemplate, entry.getKey(), bucket, window, clusterAllowance);
+            } else if (redisTemplate != null) {
+                // Redis failed earlier in this pass: keep this window's count for the next pass
+                bucket.carryUnsynced(bucket.takeUnsynced(window), window);
+            } else {
+                bucket.takeUnsynced(window); // Redis is disabled, local limits only
+            }
+            if (bucket.isIdle(now, TimeUnit.SECONDS.toNanos(windowSeconds))) {
+                buckets.remove(entry.getKey(), bucket);
+            }
+        }
+    }
+
+    /**
+     * @return false if Redis could not be reached
+     */
+    private boolean syncBucket(StringRedisTemplate redisTemplate, String clientId, TokenBucket bucket,
+                               long window, long clusterAllowance) {
+        // Negative when refunds outweigh new consumption since the last sync
+        long consumed = bucket.takeUnsynced(window);
+        String key = REDIS_KEY_PREFIX + clientId + ":" + window;
+        Long clusterConsumed;
+        try {
+            if (consumed != 0) {
+                clusterConsumed = redisTemplate.opsForValue().increment(key, consumed);
+            } else {
+                String value = redisTemplate.opsForValue().get(key);
+                clusterConsumed = value == null ? null : Long.valueOf(value);
+            }
+        } catch (RuntimeException ex) {
+            // Nothing reached Redis, so keep the count for the next pass (within this window) and carry on with local limits only
+            bucket.carryUnsynced(consumed, window);
+            logger.warn("Failed to sync rate limits with Redis, skipping the rest of this pass: {}", ex.getMessage());
+            return false;
+        }
+        try {
+            if (consumed != 0) {
+                redisTemplate.expire(key, Duration.ofSeconds(windowSeconds * 2));
+            }
+        } catch (RuntimeException ex) {
+            // The increment already landed; returning the count here would push it twice
+            logger.warn("Failed to set expiry on rate limit key {}: {}", key, ex.getMessage());
+        }
+        if (clusterConsumed != null && clusterConsumed >= clusterAllowance) {
+            bucket.drain(nanoClock.getAsLong());
+        }
+        return true;
+    }
+
+    /**
+     * Lock-free token bucket. Refill is computed lazily from the elapsed time on each access.
+     */
+    static final class TokenBucket {
+
+        private record State(double tokens, long updatedAtNanos) {}
+
+        private final double capacity;
+        private final double refillPerNano;
+        private final double refillPerSecond;
+        private final AtomicReference<State> state;
+        private final AtomicLong unsynced = new AtomicLong();
+        // Count that failed to reach Redis, only read and written by the sync pass
+        private long carriedCount;
+        private long carriedWindow;
+
+        TokenBucket(double capacity, double refillPerSecond, long now) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        /**
+         * Takes {@code permits} tokens at once, or none. A request for more than the capacity is
+         * charged the full capacity, since the bucket could otherwise never satisfy it.
+         *
+         * @return 0 if the tokens were taken, otherwise the number of seconds until enough are available
+         */
+        long tryConsume(long now, int permits) {
+            double needed = Math.min(permits, capacity);
+            while (true) {
+                State current = state.get();
+                double tokens = refill(current, now);
+                if (tokens < needed) {
+                    return Math.max(1, (long) Math.ceil((needed - tokens) / refillPerSecond));
+                }
+                if (state.compareAndSet(current, new State(tokens - needed, now))) {
+                    unsynced.addAndGet((long) needed);
+                    return 0;
+                }
+            }
+        }
+
+        void refund(long now, int permits) {
+            double returned = Math.min(permits, capacity);
+            while (true) {
+                State current = state.get();
+                if (state.compareAndSet(current, new State(Math.min(capacity, refill(current, now) + returned), now))) {
+                    unsynced.addAndGet(-(long) returned);
+                    return;
+                }
+            }
+        }
+
+        void drain(long now) {
+            state.set(new State(0, now));
+        }
+
+        /**
+         * Takes the count to push for {@code window}: consumption since the last sync plus anything carried
+         * over from a failed sync in the same window. A carried count from an earlier window is dropped,
+         * since that window's Redis key no longer limits anyone.
+         */
+        long takeUnsynced(long window) {
+            long consumed = unsynced.getAndSet(0);
+            if (carriedWindow == window) {
+                consumed += carriedCount;
+            }
+            carriedCount = 0;
+            return consumed;
+        }
+
+        void carryUnsynced(long consumed, long window) {
+            carriedCount = consumed;
+            carriedWindow = window;
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            State current = state.get();
+            return now - current.updatedAtNanos() > idleNanos && refill(current, now) >= capacity;
+        }
+
+        private double refill(State current, long now) {
+            return Math.min(capacity, current.tokens() + (now - current.updatedAtNanos()) * refillPerNano);
+        }
+    }
+}
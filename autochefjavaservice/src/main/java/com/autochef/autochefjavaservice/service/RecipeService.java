@@ -2,7 +2,8 @@ package com.autochef.autochefjavaservice.service;
 
 import com.autochef.autochefjavaservice.dto.RecipeRequest;
 import com.autochef.autochefjavaservice.dto.RecipeResponse;
+import com.autochef.autochefjavaservice.enums.RequestPriority;
 
 public interface RecipeService {
-    RecipeResponse generateRecipe(RecipeRequest request);
+    RecipeResponse generateRecipe(RecipeRequest request, String clientId, RequestPriority priority);
 }
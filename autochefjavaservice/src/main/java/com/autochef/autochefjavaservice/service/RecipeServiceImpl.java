@@ -5,68 +5,191 @@ import com.autochef.autochefjavaservice.dto.Recipe;
 import com.autochef.autochefjavaservice.dto.RecipeRequest;
 import com.autochef.autochefjavaservice.dto.RecipeResponse;
 import com.autochef.autochefjavaservice.entity.RecipeEntity;
+import com.autochef.autochefjavaservice.enums.RequestPriority;
 import com.autochef.autochefjavaservice.exception.DownstreamServiceException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import org.springframework.cache.annotation.Cacheable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 @Service
 public class RecipeServiceImpl implements RecipeService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RecipeServiceImpl.class);
+
     private final WebClient webClient;
     private final DynamoDBService dynamoDBService;
+    private final RateLimiterService rateLimiterService;
+    private final LlmWorkScheduler llmWorkScheduler;
+    private final long queueWaitTimeoutSeconds;
+    private final long llmCallTimeoutSeconds;
+    private final long llmCallTimeoutPerExtraRecipeSeconds;
+    private final Cache recipeCache;
+    private final Object[] cacheWriteLocks = new Object[64];
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public RecipeServiceImpl(WebClient webClient, DynamoDBService dynamoDBService) {
+    public RecipeServiceImpl(WebClient webClient, DynamoDBService dynamoDBService,
+                             RateLimiterService rateLimiterService, LlmWorkScheduler llmWorkScheduler,
+                             CacheManager cacheManager,
+                             @Value("${llm.queue.wait-timeout-seconds:30}") long queueWaitTimeoutSeconds,
+                             @Value("${llm.call.timeout-seconds:30}") long llmCallTimeoutSeconds,
+                             @Value("${llm.call.timeout-per-extra-recipe-seconds:10}") long llmCallTimeoutPerExtraRecipeSeconds) {
         this.webClient = webClient;
         this.dynamoDBService = dynamoDBService;
+        this.rateLimiterService = rateLimiterService;
+        this.llmWorkScheduler = llmWorkScheduler;
+        this.recipeCache = cacheManager.getCache("recipes");
+        this.queueWaitTimeoutSeconds = queueWaitTimeoutSeconds;
+        this.llmCallTimeoutSeconds = llmCallTimeoutSeconds;
+        this.llmCallTimeoutPerExtraRecipeSeconds = llmCallTimeoutPerExtraRecipeSeconds;
+        for (int i = 0; i < cacheWriteLocks.length; i++) {
+            cacheWriteLocks[i] = new Object();
+        }
     }
 
     @Override
-    @Cacheable(value = "recipes")
-    public RecipeResponse generateRecipe(RecipeRequest request) {
+    public RecipeResponse generateRecipe(RecipeRequest request, String clientId, RequestPriority priority) {
+        int count = request.count() == null ? 1 : request.count();
+
+        // Every variant generated for the same prompt, preferences and cuisine is cached under one key,
+        // so a request is served from cache whenever enough variants exist, whatever count produced them
+        RecipeRequest variantsKey = request.withCount(null);
+        List<Recipe> cachedVariants = getCachedVariants(variantsKey);
+        if (cachedVariants.size() >= count) {
+            // Cache hits never spend rate limit tokens
+            return new RecipeResponse(cachedVariants.subList(0, count));
+        }
+
+        // Only ask the LLM for the variants the cache does not already have, charging one token per recipe,
+        // and pass the cached titles so the new variants differ from them
+        int missing = count - cachedVariants.size();
+        rateLimiterService.acquire(clientId, missing);
+        RecipeResponse llmResponse;
+        try {
+            llmResponse = submitToLlm(request.withCount(missing).withExcludeTitles(titlesOf(cachedVariants)), priority);
+        } catch (RuntimeException ex) {
+            // Rejected by the queue or failed downstream: the client did not get the work it paid for
+            rateLimiterService.release(clientId, missing);
+            throw ex;
+        }
+
+        List<Recipe> variants = new ArrayList<>(cachedVariants);
+        if (llmResponse != null) {
+            variants.addAll(llmResponse.recipes());
+        }
+        // The LLM can still repeat a cached title, so the response and the cache only keep one recipe per title
+        List<Recipe> distinctVariants = distinctByTitle(variants);
+        mergeCachedVariants(variantsKey, distinctVariants);
+        return new RecipeResponse(distinctVariants.subList(0, Math.min(count, distinctVariants.size())));
+    }
+
+    private RecipeResponse submitToLlm(RecipeRequest request, RequestPriority priority) {
+        Duration callTimeout = llmCallTimeout(request.count());
+        Future<RecipeResponse> future = llmWorkScheduler.submit(priority, () -> callLlmService(request, callTimeout));
+        try {
+            return future.get(queueWaitTimeoutSeconds + callTimeout.toSeconds(), TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            // callLlmService already maps failures to DownstreamServiceException
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DownstreamServiceException(ErrorCode.LLM_DOWN, ex.getCause());
+        } catch (TimeoutException ex) {
+            // Waited too long in the queue plus the call itself
+            future.cancel(true);
+            throw new DownstreamServiceException(ErrorCode.LLM_TIMEOUT, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new DownstreamServiceException(ErrorCode.LLM_DOWN, ex);
+        }
+    }
+
+    // Cache failures are logged and treated as a miss, matching CustomCacheErrorHandler
+    private List<Recipe> getCachedVariants(RecipeRequest key) {
+        try {
+            RecipeResponse cached = recipeCache == null ? null : recipeCache.get(key, RecipeResponse.class);
+            return cached == null ? List.of() : cached.recipes();
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to GET from cache recipes for key {}: {}", key, ex.getMessage());
+            return List.of();
+        }
+    }
+
+    // Concurrent misses for the same key each add their own variants, so the entry is re-read and merged
+    // (deduplicated by title) under a per-key lock instead of overwritten. The lock only covers this task:
+    // a concurrent write from another task can still replace the entry, and the next partial miss refills it.
+    private void mergeCachedVariants(RecipeRequest key, List<Recipe> variants) {
+        if (recipeCache == null || variants.isEmpty()) {
+            return;
+        }
+        synchronized (cacheWriteLocks[Math.floorMod(key.hashCode(), cacheWriteLocks.length)]) {
+            List<Recipe> current = getCachedVariants(key);
+            List<Recipe> merged = new ArrayList<>(current);
+            merged.addAll(variants);
+            merged = distinctByTitle(merged);
+            List<Recipe> toCache = merged.subList(0, Math.min(RecipeRequest.MAX_COUNT, merged.size()));
+            if (toCache.size() <= current.size()) {
+                return;
+            }
+            try {
+                recipeCache.put(key, new RecipeResponse(new ArrayList<>(toCache)));
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to PUT to cache recipes for key {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    private static List<Recipe> distinctByTitle(List<Recipe> recipes) {
+        Map<String, Recipe> byTitle = new LinkedHashMap<>();
+        for (Recipe recipe : recipes) {
+            byTitle.putIfAbsent(recipe.title(), recipe);
+        }
+        return new ArrayList<>(byTitle.values());
+    }
+
+    private static List<String> titlesOf(List<Recipe> recipes) {
+        return recipes.stream().map(Recipe::title).toList();
+    }
+
+    // Output time grows with the number of recipes generated in one Bedrock call
+    private Duration llmCallTimeout(Integer count) {
+        int extraRecipes = count == null ? 0 : Math.max(0, count - 1);
+        return Duration.ofSeconds(llmCallTimeoutSeconds + llmCallTimeoutPerExtraRecipeSeconds * extraRecipes);
+    }
+
+    private RecipeResponse callLlmService(RecipeRequest request, Duration timeout) {
         try {
            RecipeResponse recipeResponse = webClient.post()
                     .uri("") // The base URL is already configured in the WebClient bean
                     .bodyValue(request)
                     .retrieve()
                     .bodyToMono(RecipeResponse.class)
-                    .timeout(Duration.ofSeconds(30)) // 30 second timeout
+                    .timeout(timeout)
                     .block(); // Block to wait for the response
 
-           // Convert RecipeResponse to RecipeEntity and save to DynamoDB
-           if (recipeResponse != null && !recipeResponse.recipes().isEmpty()) {
-            Recipe recipe = recipeResponse.recipes().get(0); // Get the first recipe from the response
-
-            RecipeEntity recipeEntity = new RecipeEntity();
-            recipeEntity.setRecipeId(java.util.UUID.randomUUID().toString()); // Generate a unique ID
-            recipeEntity.setTitle(recipe.title());
-            
-            // Convert ingredients list to JSON string
-            try {
-                String ingredientsJson = objectMapper.writeValueAsString(recipe.ingredients());
-                recipeEntity.setIngredients(ingredientsJson);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize ingredients", e);
-            }
-            
-            recipeEntity.setInstructions(recipe.instructions());
-            recipeEntity.setCookTimeMinutes(recipe.cookTimeMinutes());
-            recipeEntity.setPrompt(request.prompt());
-            recipeEntity.setTimestamp(java.time.Instant.now().toString());
-            recipeEntity.setCuisine(request.cuisine().name());
-            recipeEntity.setDietaryPreferences(request.dietaryPreferences());
-            
-            dynamoDBService.saveRecipe(recipeEntity); // Save to DynamoDB
-           }        
+           // Convert each recipe variant to a RecipeEntity and save it to DynamoDB
+           if (recipeResponse != null) {
+            recipeResponse.recipes().forEach(recipe -> saveRecipe(request, recipe));
+           }
 
             return recipeResponse; // Return the original response to the client
                     
@@ -97,4 +220,32 @@ public class RecipeServiceImpl implements RecipeService {
             throw new DownstreamServiceException(ErrorCode.LLM_DOWN, ex);
         }
     }
+
+    private void saveRecipe(RecipeRequest request, Recipe recipe) {
+        RecipeEntity recipeEntity = new RecipeEntity();
+        recipeEntity.setRecipeId(java.util.UUID.randomUUID().toString()); // Generate a unique ID
+        recipeEntity.setTitle(recipe.title());
+
+        // Convert ingredients list to JSON string
+        try {
+            String ingredientsJson = objectMapper.writeValueAsString(recipe.ingredients());
+            recipeEntity.setIngredients(ingredientsJson);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ingredients", e);
+        }
+
+        recipeEntity.setInstructions(recipe.instructions());
+        recipeEntity.setCookTimeMinutes(recipe.cookTimeMinutes());
+        recipeEntity.setPrompt(request.prompt());
+        recipeEntity.setTimestamp(java.time.Instant.now().toString());
+        recipeEntity.setCuisine(request.cuisine().name());
+        recipeEntity.setDietaryPreferences(request.dietaryPreferences());
+
+        // Save to DynamoDB without holding the worker thread; a failed write only loses history, not the response
+        dynamoDBService.saveRecipeAsync(recipeEntity).whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Failed to save recipe {} to DynamoDB: {}", recipeEntity.getRecipeId(), ex.getMessage());
+            }
+        });
+    }
 }
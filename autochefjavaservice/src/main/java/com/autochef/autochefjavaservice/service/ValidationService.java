@@ -22,6 +22,7 @@ public class ValidationService {
     public void validateRecipeRequest(RecipeRequest request) {
         validatePrompt(request.prompt());
         validateCuisine(request.cuisine());
+        validateCount(request.count());
         // Future validations can be added here (e.g., dietary preferences, locale)
     }
 
@@ -48,4 +49,16 @@ public class ValidationService {
             throw new ValidationException(ErrorCode.INVALID_CUISINE);
         }
     }
+
+    /**
+     * Validates that the optional variant count is within the supported range.
+     *
+     * @param count the number of recipe variants requested, may be null
+     * @throws ValidationException if count is out of range
+     */
+    private void validateCount(Integer count) {
+        if (count != null && (count < 1 || count > RecipeRequest.MAX_COUNT)) {
+            throw new ValidationException(ErrorCode.INVALID_COUNT);
+        }
+    }
 }
\ No newline at end of file
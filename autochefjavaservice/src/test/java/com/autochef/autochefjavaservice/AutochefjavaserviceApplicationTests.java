@@ -3,7 +3,8 @@ package com.autochef.autochefjavaservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Warmup would wait for DynamoDB and the LLM service, which tests do not run
+@SpringBootTest(properties = "startup.warmup.enabled=false")
 class AutochefjavaserviceApplicationTests {
 
 	@Test
@@ -0,0 +1,36 @@
+package com.autochef.autochefjavaservice.exception;
+
+import com.autochef.autochefjavaservice.constants.ErrorCode;
+import com.autochef.autochefjavaservice.dto.ErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+	private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+	@Test
+	void rateLimitedMapsTo429WithRetryAfter() {
+		ResponseEntity<ErrorResponse> response = handler.handleRateLimitExceededException(
+				new RateLimitExceededException(ErrorCode.RATE_LIMITED, 3));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+		assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals("RATE_LIMITED", response.getBody().code());
+	}
+
+	@Test
+	void llmBusyMapsTo503WithRetryAfter() {
+		ResponseEntity<ErrorResponse> response = handler.handleRateLimitExceededException(
+				new RateLimitExceededException(ErrorCode.LLM_BUSY, 5));
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(503, response.getBody().status());
+		assertEquals("LLM_BUSY", response.getBody().code());
+	}
+}
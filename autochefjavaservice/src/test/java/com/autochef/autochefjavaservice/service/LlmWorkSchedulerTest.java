@@ -0,0 +1,98 @@
+package com.autochef.autochefjavaservice.service;
+
+import com.autochef.autochefjavaservice.constants.ErrorCode;
+import com.autochef.autochefjavaservice.enums.RequestPriority;
+import com.autochef.autochefjavaservice.exception.RateLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmWorkSchedulerTest {
+
+	private LlmWorkScheduler scheduler;
+
+	@AfterEach
+	void shutdown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	void queuedWorkRunsByPriorityThenInSubmissionOrder() throws Exception {
+		scheduler = new LlmWorkScheduler(1, 10, 10, 10, 5);
+		CountDownLatch release = new CountDownLatch(1);
+		occupyWorker(release);
+
+		List<String> order = new CopyOnWriteArrayList<>();
+		List<Future<String>> futures = List.of(
+				scheduler.submit(RequestPriority.WARMUP, () -> record(order, "warmup")),
+				scheduler.submit(RequestPriority.BATCH, () -> record(order, "batch-1")),
+				scheduler.submit(RequestPriority.INTERACTIVE, () -> record(order, "interactive-1")),
+				scheduler.submit(RequestPriority.INTERACTIVE, () -> record(order, "interactive-2")),
+				scheduler.submit(RequestPriority.BATCH, () -> record(order, "batch-2")));
+		release.countDown();
+		for (Future<String> future : futures) {
+			future.get(5, TimeUnit.SECONDS);
+		}
+
+		assertEquals(List.of("interactive-1", "interactive-2", "batch-1", "batch-2", "warmup"), order);
+	}
+
+	@Test
+	void submissionsBeyondQueueCapacityAreRejectedAsBusy() throws Exception {
+		scheduler = new LlmWorkScheduler(1, 2, 2, 2, 7);
+		CountDownLatch release = new CountDownLatch(1);
+		occupyWorker(release);
+
+		scheduler.submit(RequestPriority.INTERACTIVE, () -> "a");
+		scheduler.submit(RequestPriority.INTERACTIVE, () -> "b");
+		RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+				() -> scheduler.submit(RequestPriority.INTERACTIVE, () -> "c"));
+
+		assertEquals(ErrorCode.LLM_BUSY, ex.getErrorCode());
+		assertEquals(7, ex.getRetryAfterSeconds());
+		release.countDown();
+	}
+
+	@Test
+	void lowerPrioritiesCannotTakeTheSlotsKeptForInteractiveWork() throws Exception {
+		scheduler = new LlmWorkScheduler(1, 4, 2, 1, 5);
+		CountDownLatch release = new CountDownLatch(1);
+		occupyWorker(release);
+
+		scheduler.submit(RequestPriority.BATCH, () -> "batch-1");
+		scheduler.submit(RequestPriority.BATCH, () -> "batch-2");
+		scheduler.submit(RequestPriority.WARMUP, () -> "warmup-1");
+		assertThrows(RateLimitExceededException.class,
+				() -> scheduler.submit(RequestPriority.BATCH, () -> "batch-3"));
+		assertThrows(RateLimitExceededException.class,
+				() -> scheduler.submit(RequestPriority.WARMUP, () -> "warmup-2"));
+
+		Future<String> interactive = scheduler.submit(RequestPriority.INTERACTIVE, () -> "interactive");
+		release.countDown();
+		assertEquals("interactive", interactive.get(5, TimeUnit.SECONDS));
+	}
+
+	// Keeps the only worker busy so later submissions wait in the queue
+	private void occupyWorker(CountDownLatch release) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		scheduler.submit(RequestPriority.INTERACTIVE, () -> {
+			started.countDown();
+			return release.await(5, TimeUnit.SECONDS);
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+	}
+
+	private static String record(List<String> order, String name) {
+		order.add(name);
+		return name;
+	}
+}
@@ -0,0 +1,285 @@
+package com.autochef.autochefjavaservice.service;
+
+import com.autochef.autochefjavaservice.constants.ErrorCode;
+import com.autochef.autochefjavaservice.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimiterServiceTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void bucketAllowsBurstUpToCapacityThenReportsRetryAfter() {
+		RateLimiterService.TokenBucket bucket = new RateLimiterService.TokenBucket(2, 0.5, 0);
+
+		assertEquals(0, bucket.tryConsume(0, 1));
+		assertEquals(0, bucket.tryConsume(0, 1));
+		// One token refills every 2 seconds at 0.5/s
+		assertEquals(2, bucket.tryConsume(0, 1));
+		// Half a token after one second, so one more second to wait
+		assertEquals(1, bucket.tryConsume(SECOND, 1));
+		assertEquals(0, bucket.tryConsume(2 * SECOND, 1));
+	}
+
+	@Test
+	void bucketRefillIsCappedAtCapacity() {
+		RateLimiterService.TokenBucket bucket = new RateLimiterService.TokenBucket(2, 1, 0);
+
+		long later = 100 * SECOND;
+		assertEquals(0, bucket.tryConsume(later, 1));
+		assertEquals(0, bucket.tryConsume(later, 1));
+		assertEquals(1, bucket.tryConsume(later, 1));
+	}
+
+	@Test
+	void refundGivesBackATokenButNeverExceedsCapacity() {
+		RateLimiterService.TokenBucket bucket = new RateLimiterService.TokenBucket(1, 0.1, 0);
+
+		assertEquals(0, bucket.tryConsume(0, 1));
+		bucket.refund(0, 1);
+		assertEquals(0, bucket.tryConsume(0, 1));
+
+		bucket.refund(0, 1);
+		bucket.refund(0, 1);
+		assertEquals(0, bucket.tryConsume(0, 1));
+		assertEquals(10, bucket.tryConsume(0, 1));
+	}
+
+	@Test
+	void bucketTakesSeveralPermitsAllOrNothing() {
+		RateLimiterService.TokenBucket bucket = new RateLimiterService.TokenBucket(5, 1, 0);
+
+		assertEquals(0, bucket.tryConsume(0, 3));
+		// Two tokens left, so three more need one more second
+		assertEquals(1, bucket.tryConsume(0, 3));
+		assertEquals(0, bucket.tryConsume(0, 2));
+		bucket.refund(0, 3);
+		assertEquals(0, bucket.tryConsume(0, 3));
+		assertEquals(5, bucket.takeUnsynced(0));
+	}
+
+	@Test
+	void permitsAboveCapacityAreChargedTheFullCapacity() {
+		RateLimiterService.TokenBucket bucket = new RateLimiterService.TokenBucket(2, 0.5, 0);
+
+		assertEquals(0, bucket.tryConsume(0, 5));
+		assertEquals(2, bucket.tryConsume(0, 1));
+		assertEquals(2, bucket.takeUnsynced(0));
+	}
+
+	@Test
+	void concurrentConsumersNeverTakeMoreThanCapacity() throws InterruptedException {
+		RateLimiterService.TokenBucket bucket = new RateLimiterService.TokenBucket(100, 0.001, 0);
+		AtomicInteger granted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 1000; i++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (bucket.tryConsume(0, 1) == 0) {
+					granted.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertEquals(100, granted.get());
+		assertEquals(100, bucket.takeUnsynced(0));
+	}
+
+	@Test
+	void acquireRejectsWithRateLimitedOnceTheClientBucketIsEmpty() {
+		AtomicLong clock = new AtomicLong();
+		RateLimiterService rateLimiter = newRateLimiter(true, null, clock);
+
+		rateLimiter.acquire("ip:10.0.0.1", 1);
+		rateLimiter.acquire("ip:10.0.0.1", 1);
+		RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire("ip:10.0.0.1", 1));
+
+		assertEquals(ErrorCode.RATE_LIMITED, ex.getErrorCode());
+		assertEquals(2, ex.getRetryAfterSeconds());
+		// Other clients have their own bucket
+		assertDoesNotThrow(() -> rateLimiter.acquire("ip:10.0.0.2", 1));
+
+		clock.addAndGet(2 * SECOND);
+		assertDoesNotThrow(() -> rateLimiter.acquire("ip:10.0.0.1", 1));
+	}
+
+	@Test
+	void releaseRefundsTheClientToken() {
+		RateLimiterService rateLimiter = newRateLimiter(true, null, new AtomicLong());
+
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.release("key:a", 1);
+
+		assertDoesNotThrow(() -> rateLimiter.acquire("key:a", 1));
+	}
+
+	@Test
+	void acquireChargesOneTokenPerPermit() {
+		RateLimiterService rateLimiter = newRateLimiter(true, null, new AtomicLong());
+
+		rateLimiter.acquire("key:a", 2);
+		RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire("key:a", 1));
+		assertEquals(2, ex.getRetryAfterSeconds());
+
+		rateLimiter.release("key:a", 2);
+		assertDoesNotThrow(() -> rateLimiter.acquire("key:a", 2));
+	}
+
+	@Test
+	void disabledLimiterNeverRejects() {
+		RateLimiterService rateLimiter = newRateLimiter(false, null, new AtomicLong());
+
+		for (int i = 0; i < 10; i++) {
+			assertDoesNotThrow(() -> rateLimiter.acquire("key:a", 1));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedExpiryDoesNotPushTheSameTokensTwice() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.increment(anyString(), anyLong())).thenReturn(1L);
+		when(redisTemplate.expire(anyString(), any(Duration.class))).thenThrow(new IllegalStateException("expire failed"));
+		RateLimiterService rateLimiter = newRateLimiter(true, redisTemplate, new AtomicLong());
+
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.syncWithRedis();
+		rateLimiter.syncWithRedis();
+
+		verify(valueOperations, times(1)).increment(anyString(), anyLong());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedIncrementIsRetriedOnTheNextSync() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.increment(anyString(), anyLong()))
+				.thenThrow(new IllegalStateException("redis down"))
+				.thenReturn(1L);
+		RateLimiterService rateLimiter = newRateLimiter(true, redisTemplate, new AtomicLong());
+
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.syncWithRedis();
+		rateLimiter.syncWithRedis();
+
+		verify(valueOperations, times(2)).increment(anyString(), eq(1L));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void syncStopsAtTheFirstRedisFailure() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.increment(anyString(), anyLong())).thenThrow(new IllegalStateException("redis down"));
+		RateLimiterService rateLimiter = newRateLimiter(true, redisTemplate, new AtomicLong());
+
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.acquire("key:b", 1);
+		rateLimiter.acquire("key:c", 1);
+		rateLimiter.syncWithRedis();
+
+		verify(valueOperations, times(1)).increment(anyString(), anyLong());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void countCarriedFromAnEarlierWindowIsDropped() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.increment(anyString(), anyLong()))
+				.thenThrow(new IllegalStateException("redis down"))
+				.thenReturn(1L);
+		AtomicLong clock = new AtomicLong();
+		RateLimiterService rateLimiter = newRateLimiter(true, redisTemplate, clock);
+
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.syncWithRedis();
+		clock.addAndGet(61 * SECOND);
+		rateLimiter.syncWithRedis();
+
+		// The failed count belonged to the old window, so the next pass only reads the new one
+		verify(valueOperations, times(1)).increment(anyString(), anyLong());
+		verify(valueOperations, times(1)).get(anyString());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void idleBucketsAreEvictedEvenWhileRedisIsFailing() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.increment(anyString(), anyLong())).thenThrow(new IllegalStateException("redis down"));
+		AtomicLong clock = new AtomicLong();
+		RateLimiterService rateLimiter = newRateLimiter(true, redisTemplate, clock);
+
+		rateLimiter.acquire("key:a", 1);
+		clock.addAndGet(120 * SECOND);
+		rateLimiter.syncWithRedis();
+		rateLimiter.syncWithRedis();
+
+		// The bucket was dropped in the first pass, so the second one has nothing to push
+		verify(valueOperations, times(1)).increment(anyString(), anyLong());
+	}
+
+	@Test
+	void newClientsShareTheOverflowBucketOnceTheMapIsFull() {
+		RateLimiterService rateLimiter = newRateLimiter(true, null, new AtomicLong());
+
+		rateLimiter.acquire("key:a", 1);
+		rateLimiter.acquire("key:b", 1);
+		rateLimiter.acquire("key:c", 1);
+		rateLimiter.acquire("key:d", 1);
+
+		assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire("key:e", 1));
+		// Known clients keep their own bucket
+		assertDoesNotThrow(() -> rateLimiter.acquire("key:a", 1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static RateLimiterService newRateLimiter(boolean enabled, StringRedisTemplate redisTemplate, AtomicLong clock) {
+		ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(redisTemplate);
+		return new RateLimiterService(provider, enabled, 2, 0.5, 60, 2,
+				clock::get, () -> TimeUnit.NANOSECONDS.toMillis(clock.get()));
+	}
+}
@@ -0,0 +1,214 @@
+package com.autochef.autochefjavaservice.service;
+
+import com.autochef.autochefjavaservice.dto.Recipe;
+import com.autochef.autochefjavaservice.dto.RecipeRequest;
+import com.autochef.autochefjavaservice.dto.RecipeResponse;
+import com.autochef.autochefjavaservice.enums.Cuisine;
+import com.autochef.autochefjavaservice.enums.RequestPriority;
+import com.autochef.autochefjavaservice.exception.DownstreamServiceException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecipeServiceImplTest {
+
+	private static final String CLIENT_ID = "key:a";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<JsonNode> llmRequests = new CopyOnWriteArrayList<>();
+
+	private Cache recipeCache;
+	private RateLimiterService rateLimiter;
+	private LlmWorkScheduler scheduler;
+	private RecipeServiceImpl recipeService;
+
+	private HttpStatus llmStatus = HttpStatus.OK;
+	private List<String> llmTitles = List.of();
+	private Runnable duringLlmCall = () -> { };
+
+	@BeforeEach
+	void setUp() {
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("recipes");
+		recipeCache = cacheManager.getCache("recipes");
+		DynamoDBService dynamoDBService = mock(DynamoDBService.class);
+		when(dynamoDBService.saveRecipeAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+		rateLimiter = mock(RateLimiterService.class);
+		scheduler = new LlmWorkScheduler(2, 10, 10, 10, 5);
+		WebClient webClient = WebClient.builder()
+				.baseUrl("http://llm.test/generate")
+				.exchangeFunction(this::callLlm)
+				.build();
+		recipeService = new RecipeServiceImpl(webClient, dynamoDBService, rateLimiter, scheduler, cacheManager, 30, 30, 10);
+	}
+
+	@AfterEach
+	void shutdown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	void fullCacheHitSkipsTheLlmAndTheRateLimiter() {
+		recipeCache.put(variantsKey(), new RecipeResponse(recipes("A", "B", "C")));
+
+		RecipeResponse response = recipeService.generateRecipe(request(2), CLIENT_ID, RequestPriority.INTERACTIVE);
+
+		assertEquals(List.of("A", "B"), titles(response.recipes()));
+		assertTrue(llmRequests.isEmpty());
+		verify(rateLimiter, never()).acquire(anyString(), anyInt());
+	}
+
+	@Test
+	void cacheMissChargesPerRecipeAndCachesTheVariants() {
+		llmTitles = List.of("A", "B");
+
+		RecipeResponse response = recipeService.generateRecipe(request(2), CLIENT_ID, RequestPriority.INTERACTIVE);
+
+		assertEquals(List.of("A", "B"), titles(response.recipes()));
+		verify(rateLimiter).acquire(CLIENT_ID, 2);
+		assertEquals(1, llmRequests.size());
+		assertEquals(2, llmRequests.get(0).get("count").asInt());
+		assertFalse(llmRequests.get(0).has("excludeTitles"));
+		assertEquals(List.of("A", "B"), cachedTitles());
+	}
+
+	@Test
+	void partialHitOnlyAsksForTheMissingVariantsAndExcludesCachedTitles() {
+		recipeCache.put(variantsKey(), new RecipeResponse(recipes("A")));
+		llmTitles = List.of("B", "C");
+
+		RecipeResponse response = recipeService.generateRecipe(request(3), CLIENT_ID, RequestPriority.INTERACTIVE);
+
+		assertEquals(List.of("A", "B", "C"), titles(response.recipes()));
+		verify(rateLimiter).acquire(CLIENT_ID, 2);
+		JsonNode llmRequest = llmRequests.get(0);
+		assertEquals(2, llmRequest.get("count").asInt());
+		assertEquals("A", llmRequest.get("excludeTitles").get(0).asText());
+		assertEquals(List.of("A", "B", "C"), cachedTitles());
+	}
+
+	@Test
+	void repeatedTitlesFromTheLlmAreDroppedFromTheResponseAndTheCache() {
+		recipeCache.put(variantsKey(), new RecipeResponse(recipes("A")));
+		llmTitles = List.of("A", "B");
+
+		RecipeResponse response = recipeService.generateRecipe(request(3), CLIENT_ID, RequestPriority.INTERACTIVE);
+
+		assertEquals(List.of("A", "B"), titles(response.recipes()));
+		assertEquals(List.of("A", "B"), cachedTitles());
+	}
+
+	@Test
+	void failedLlmCallRefundsTheTokensItWasCharged() {
+		recipeCache.put(variantsKey(), new RecipeResponse(recipes("A")));
+		llmStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+
+		assertThrows(DownstreamServiceException.class,
+				() -> recipeService.generateRecipe(request(3), CLIENT_ID, RequestPriority.INTERACTIVE));
+
+		verify(rateLimiter).acquire(CLIENT_ID, 2);
+		verify(rateLimiter).release(CLIENT_ID, 2);
+		assertEquals(List.of("A"), cachedTitles());
+	}
+
+	@Test
+	void variantsCachedDuringTheLlmCallAreMergedRatherThanOverwritten() {
+		llmTitles = List.of("A", "B");
+		duringLlmCall = () -> recipeCache.put(variantsKey(), new RecipeResponse(recipes("B", "X")));
+
+		RecipeResponse response = recipeService.generateRecipe(request(2), CLIENT_ID, RequestPriority.INTERACTIVE);
+
+		assertEquals(List.of("A", "B"), titles(response.recipes()));
+		assertEquals(List.of("B", "X", "A"), cachedTitles());
+	}
+
+	private Mono<ClientResponse> callLlm(ClientRequest request) {
+		MockClientHttpRequest body = new MockClientHttpRequest(request.method(), request.url());
+		request.body().insert(body, new BodyInserter.Context() {
+			@Override
+			public List<HttpMessageWriter<?>> messageWriters() {
+				return ExchangeStrategies.withDefaults().messageWriters();
+			}
+
+			@Override
+			public Optional<ServerHttpRequest> serverRequest() {
+				return Optional.empty();
+			}
+
+			@Override
+			public Map<String, Object> hints() {
+				return Map.of();
+			}
+		}).block();
+		try {
+			llmRequests.add(objectMapper.readTree(body.getBodyAsString().block()));
+			duringLlmCall.run();
+			if (llmStatus != HttpStatus.OK) {
+				return Mono.just(ClientResponse.create(llmStatus).build());
+			}
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+					.body(objectMapper.writeValueAsString(new RecipeResponse(recipes(llmTitles.toArray(String[]::new)))))
+					.build());
+		} catch (Exception ex) {
+			return Mono.error(ex);
+		}
+	}
+
+	private List<String> cachedTitles() {
+		RecipeResponse cached = recipeCache.get(variantsKey(), RecipeResponse.class);
+		return cached == null ? List.of() : titles(cached.recipes());
+	}
+
+	private static RecipeRequest request(int count) {
+		return new RecipeRequest("pasta", List.of("vegetarian"), Cuisine.ITALIAN, count, null);
+	}
+
+	private static RecipeRequest variantsKey() {
+		return request(1).withCount(null);
+	}
+
+	private static List<Recipe> recipes(String... titles) {
+		return Arrays.stream(titles)
+				.map(title -> new Recipe(title, List.of(), "Cook it.", 10))
+				.toList();
+	}
+
+	private static List<String> titles(List<Recipe> recipes) {
+		return recipes.stream().map(Recipe::title).toList();
+	}
+}
@@ -14,14 +14,17 @@ bedrock_service = BedrockService()
 async def generate_recipe(request: schemas.RecipeRequest):
     
     try:
-        # Use BedrockService to generate real recipe
-        recipe = bedrock_service.generate_recipe(
+        # Use BedrockService to generate real recipes; the blocking Bedrock call runs
+        # on its bounded thread pool so this worker can keep serving other requests
+        recipes = await bedrock_service.generate_recipes_async(
             prompt=request.prompt,
             dietary_preferences=request.dietaryPreferences,
-            cuisine=request.cuisine
+            cuisine=request.cuisine,
+            count=request.count or 1,
+            exclude_titles=request.excludeTitles
         )
 
-        return schemas.RecipeResponse(recipes=[recipe])
+        return schemas.RecipeResponse(recipes=recipes)
     except Exception as e:
         logger.error(f"Generation failed for prompt: {request.prompt}", exc_info=True)
         raise HTTPException(status_code=500, detail={"code": "GENERATION_FAILED", "message": "Failed to generate recipe."})
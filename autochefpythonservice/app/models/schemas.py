@@ -1,11 +1,17 @@
 from typing import List, Optional, Literal
-from pydantic import BaseModel
+from pydantic import BaseModel, Field
+
+# Upper bound on variants per request, keeps a single Bedrock response within its token limit
+MAX_RECIPE_COUNT = 5
 
 
 class RecipeRequest(BaseModel):
     prompt: str
     dietaryPreferences: Optional[List[str]] = None
     cuisine: Literal["INDIAN", "ITALIAN", "MEXICAN", "THAI"] 
+    count: Optional[int] = Field(default=1, ge=1, le=MAX_RECIPE_COUNT)
+    # Titles of variants the caller already has cached, so new variants do not repeat them
+    excludeTitles: Optional[List[str]] = None
 
 
 class Ingredient(BaseModel):
@@ -5,10 +5,16 @@ This service handles all interactions with AWS Bedrock Claude models,
 providing a clean interface for recipe generation.
 """
 
+import asyncio
 import boto3
 import json
 import logging
+import os
+import re
+from concurrent.futures import ThreadPoolExecutor
+from functools import partial
 from typing import Dict, Any, List, Optional
+from botocore.config import Config
 from botocore.exceptions import ClientError
 from .prompt_builder import PromptBuilder
 from ..models.schemas import Recipe, Ingredient
@@ -25,37 +31,72 @@ class BedrockService:
     - Recipe generation prompts
     - Response parsing and validation
     - Error handling for Bedrock-specific issues
+    - Running the blocking boto3 calls on a bounded thread pool
     """
     
+    # Output tokens allowed per recipe; a multi-recipe call scales this up to the model limit
+    MAX_TOKENS_PER_RECIPE = 1000
+    MODEL_MAX_OUTPUT_TOKENS = 4096
+    
     def __init__(self):
         """Initialize the Bedrock service with client and configuration."""
         self.region_name = 'us-east-1'
         self.model_id = 'anthropic.claude-3-haiku-20240307-v1:0'
         
+        # Number of Bedrock calls one worker can have in flight at once
+        self.max_concurrency = int(os.getenv('BEDROCK_MAX_CONCURRENCY', '16'))
+        self.executor = ThreadPoolExecutor(max_workers=self.max_concurrency, thread_name_prefix='bedrock')
+        
         # Initialize prompt builder for all prompt engineering
         self.prompt_builder = PromptBuilder()
         
         # Initialize Bedrock Runtime client
+        # boto3 clients are thread-safe; the connection pool is sized to match the thread pool
         try:
             self.bedrock_runtime = boto3.client(
                 'bedrock-runtime', 
-                region_name=self.region_name
+                region_name=self.region_name,
+                config=Config(max_pool_connections=self.max_concurrency)
             )
             logger.info(f"BedrockService initialized successfully with model: {self.model_id}")
         except Exception as e:
             logger.error(f"Failed to initialize Bedrock client: {e}")
             raise
     
-    def generate_recipe(self, prompt: str, cuisine: str, dietary_preferences: Optional[List[str]] = None) -> Recipe:
+    async def generate_recipes_async(self, prompt: str, cuisine: str, dietary_preferences: Optional[List[str]] = None, count: int = 1, exclude_titles: Optional[List[str]] = None) -> List[Recipe]:
+        """
+        Run generate_recipes on the bounded thread pool so the event loop keeps serving other requests.
+        
+        Args:
+            prompt (str): User's recipe request
+            cuisine (str): Cuisine type (e.g., "INDIAN", "ITALIAN", "MEXICAN", "THAI")
+            dietary_preferences (list, optional): Dietary restrictions/preferences
+            count (int): Number of distinct recipe variants to generate
+            exclude_titles (list, optional): Titles of existing recipes the new ones must differ from
+        Returns:
+            List[Recipe]: Parsed recipe DTOs from Claude's response
+        """
+        loop = asyncio.get_running_loop()
+        return await loop.run_in_executor(
+            self.executor,
+            partial(self.generate_recipes, prompt, cuisine, dietary_preferences, count, exclude_titles)
+        )
+    
+    def generate_recipes(self, prompt: str, cuisine: str, dietary_preferences: Optional[List[str]] = None, count: int = 1, exclude_titles: Optional[List[str]] = None) -> List[Recipe]:
         """
-        Generate a recipe using Claude 3 Haiku based on the provided prompt.
+        Generate one or more recipe variants in a single Claude 3 Haiku invocation.
+        
+        Asking for N variants in one call pays for the shared prompt once instead of N times.
+        If the response hits the output token limit, the recipes that were completed are still returned.
         
         Args:
             prompt (str): User's recipe request (e.g., "I have chicken and garlic")
             dietary_preferences (list, optional): Dietary restrictions/preferences
             cuisine (str): Cuisine type (e.g., "INDIAN", "ITALIAN", "MEXICAN", "THAI")            
+            count (int): Number of distinct recipe variants to generate
+            exclude_titles (list, optional): Titles of existing recipes the new ones must differ from
         Returns:
-            Recipe: Parsed recipe DTO from Claude's response
+            List[Recipe]: Parsed recipe DTOs from Claude's response
             
         Raises:
             ClientError: When Bedrock API call fails
@@ -64,7 +105,10 @@ class BedrockService:
         
         try:
             # Use PromptBuilder to create the combined prompt
-            combined_prompt = self.prompt_builder.build_combined_prompt(prompt, dietary_preferences, cuisine)
+            combined_prompt = self.prompt_builder.build_combined_prompt(
+                prompt, cuisine=cuisine, dietary_preferences=dietary_preferences, count=count,
+                exclude_titles=exclude_titles
+            )
             messages = [
                 {
                     "role": "user",
@@ -77,7 +121,8 @@ class BedrockService:
                 modelId=self.model_id,
                 messages=messages,
                 inferenceConfig={
-                    'maxTokens': 1000,    # Allow longer responses for recipes
+                    # Allow longer responses for recipes, scaled by the number of variants
+                    'maxTokens': min(self.MAX_TOKENS_PER_RECIPE * count, self.MODEL_MAX_OUTPUT_TOKENS),
                     'temperature': 0.3    # Slightly creative but still focused
                 }
             )
@@ -88,27 +133,30 @@ class BedrockService:
             # Log token usage for monitoring
             input_tokens = response['usage']['inputTokens']
             output_tokens = response['usage']['outputTokens']
-            logger.info(f"Recipe generated successfully. Tokens - Input: {input_tokens}, Output: {output_tokens}")
+            logger.info(f"{count} recipe(s) generated successfully. Tokens - Input: {input_tokens}, Output: {output_tokens}")
+            
+            truncated = response.get('stopReason') == 'max_tokens'
+            if truncated:
+                logger.warning(f"Response for {count} recipe(s) hit the {output_tokens} output token limit, keeping the complete recipes")
             
             # Fix common JSON issues (fractions like 1/2 -> 0.5)
-            import re
             fixed_text = re.sub(r'"quantity":\s*(\d+)/(\d+)', 
                                lambda m: f'"quantity": {int(m.group(1)) / int(m.group(2))}', 
                                response_text)
             
             # Simple JSON parsing - let it fail fast if invalid
             try:
-                recipe_data = json.loads(fixed_text)
+                recipe_data = self._parse_recipe_json(fixed_text, truncated)
             except json.JSONDecodeError as e:
                 logger.error(f"JSON parsing failed: {e}")
                 logger.error(f"Original response: {response_text[:200]}...")
                 logger.error(f"Fixed response: {fixed_text[:200]}...")
                 raise
             
-            # Convert to Recipe DTO - let Pydantic handle validation
-            recipe = Recipe(**recipe_data)
+            # Convert to Recipe DTOs - let Pydantic handle validation
+            recipes = [Recipe(**item) for item in recipe_data[:count]]
             
-            return recipe
+            return recipes
             
         except ClientError as e:
             error_code = e.response['Error']['Code']
@@ -118,4 +166,56 @@ class BedrockService:
             
         except Exception as e:
             logger.error(f"Unexpected error in recipe generation: {e}")
-            raise
\ No newline at end of file
+            raise
+    
+    @staticmethod
+    def _parse_recipe_json(text: str, truncated: bool = False) -> List[Dict[str, Any]]:
+        """
+        Parse the model output into a list of recipe dicts.
+        
+        A single recipe comes back as an object, several as an array. When the output was cut off at the
+        token limit, the complete objects at the start of the array are kept and the partial one is dropped.
+        
+        Args:
+            text (str): JSON text from the model
+            truncated (bool): Whether the model stopped at its output token limit
+        Returns:
+            List[Dict[str, Any]]: One dict per recipe
+            
+        Raises:
+            json.JSONDecodeError: When the text is not valid JSON and no complete recipe can be recovered
+        """
+        try:
+            recipe_data = json.loads(text)
+        except json.JSONDecodeError:
+            if not truncated:
+                raise
+            recipe_data = BedrockService._complete_array_items(text)
+            if not recipe_data:
+                raise
+        
+        if isinstance(recipe_data, dict):
+            recipe_data = [recipe_data]
+        return recipe_data
+    
+    @staticmethod
+    def _complete_array_items(text: str) -> List[Dict[str, Any]]:
+        """Decode the items of a top-level JSON array one at a time, stopping at the first incomplete one."""
+        decoder = json.JSONDecoder()
+        items = []
+        stripped = text.lstrip()
+        if not stripped.startswith('['):
+            # A cut-off single object has nothing complete to keep
+            return items
+        text = stripped
+        index = 1
+        while True:
+            while index < len(text) and text[index] in ' \t\r\n,':
+                index += 1
+            if index >= len(text) or text[index] == ']':
+                return items
+            try:
+                item, index = decoder.raw_decode(text, index)
+            except json.JSONDecodeError:
+                return items
+            items.append(item)
@@ -21,8 +21,9 @@ class PromptBuilder:
     
     def __init__(self):
         """Initialize the PromptBuilder."""
-        # Could add configuration here later (prompt templates, etc.)
-        pass
+        # The system prompt and separator never change between requests, so the
+        # static prefix of every combined prompt is built once and reused
+        self._static_prefix = self.build_system_prompt() + "\n\n" + "="*50 + "\n" + "USER REQUEST:\n"
     
     def build_system_prompt(self) -> str:
         """
@@ -65,7 +66,7 @@ Guidelines for your responses:
 - Be creative with titles while keeping them descriptive
 - Do not include any text outside the JSON response"""
 
-    def build_user_prompt(self, prompt: str,  cuisine: str, dietary_preferences: Optional[List[str]] = None) -> str:
+    def build_user_prompt(self, prompt: str,  cuisine: str, dietary_preferences: Optional[List[str]] = None, count: int = 1, exclude_titles: Optional[List[str]] = None) -> str:
         """
         Build the user prompt that incorporates specific recipe requirements.
         
@@ -73,11 +74,16 @@ Guidelines for your responses:
             prompt (str): User's recipe request
             dietary_preferences (list, optional): Dietary restrictions
             cuisine (str): Cuisine type (e.g., "INDIAN", "ITALIAN", "MEXICAN", "THAI")
+            count (int): Number of distinct recipe variants to generate
+            exclude_titles (list, optional): Titles of existing recipes the new ones must differ from
         Returns:
             str: The complete user prompt with all requirements
         """
         # Start with the base request
-        user_prompt = f"Create a recipe based on this request: {prompt}"
+        if count > 1:
+            user_prompt = f"Create {count} distinct recipe variations based on this request: {prompt}"
+        else:
+            user_prompt = f"Create a recipe based on this request: {prompt}"
         
         # Add dietary preferences if provided
         if dietary_preferences and len(dietary_preferences) > 0:
@@ -90,34 +96,37 @@ Guidelines for your responses:
             user_prompt += f"\n\nCuisine preference: {cuisine}"
             user_prompt += "\nFocus on this cuisine style in the recipe."
         
+        # Steer away from recipes the caller already has
+        if exclude_titles:
+            titles_text = ", ".join(exclude_titles)
+            user_prompt += f"\n\nThese recipes already exist: {titles_text}"
+            user_prompt += "\nDo not repeat them; create something clearly different."
+        
         # Final JSON reminder
-        user_prompt += "\n\nProvide your response as valid JSON only, following the exact format specified above."
+        if count > 1:
+            user_prompt += f"\n\nProvide your response as a valid JSON array of exactly {count} recipe objects, each following the exact format specified above, and nothing else."
+            user_prompt += "\nMake the variations clearly different from each other (technique, main ingredients or style)."
+        else:
+            user_prompt += "\n\nProvide your response as valid JSON only, following the exact format specified above."
         
         return user_prompt
 
-    def build_combined_prompt(self, prompt: str,  cuisine: str, dietary_preferences: Optional[List[str]] = None) -> str:
+    def build_combined_prompt(self, prompt: str,  cuisine: str, dietary_preferences: Optional[List[str]] = None, count: int = 1, exclude_titles: Optional[List[str]] = None) -> str:
         """
         Build a combined prompt that includes both system instructions and user request.
         
         Since Bedrock converse API only supports user/assistant roles, we combine
         the system prompt and user prompt into a single user message.
+        The static system prompt prefix is precomputed once per PromptBuilder.
         
         Args:
             prompt (str): User's recipe request
             dietary_preferences (list, optional): Dietary restrictions
             cuisine (str): Cuisine type (e.g., "INDIAN", "ITALIAN", "MEXICAN", "THAI")            
+            count (int): Number of distinct recipe variants to generate
+            exclude_titles (list, optional): Titles of existing recipes the new ones must differ from
         Returns:
             str: The complete combined prompt ready for Bedrock API
         """
-        # Start with system instructions (AutoChef persona)
-        combined_prompt = self.build_system_prompt()
-        
-        # Add clear separator and user request section
-        combined_prompt += "\n\n" + "="*50 + "\n"
-        combined_prompt += "USER REQUEST:\n"
-
-        # Add the user-specific prompt
-        user_section = self.build_user_prompt(prompt, dietary_preferences, cuisine)
-        combined_prompt += user_section
-        
-        return combined_prompt
+        # Static prefix (AutoChef persona, separator and user request header) followed by the user-specific prompt
+        return self._static_prefix + self.build_user_prompt(prompt, cuisine, dietary_preferences, count, exclude_titles)
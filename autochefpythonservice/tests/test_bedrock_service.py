@@ -0,0 +1,62 @@
+import json
+from unittest.mock import patch
+
+import pytest
+
+from app.services.bedrock_service import BedrockService
+
+def recipe(title):
+	return {
+		"title": title,
+		"ingredients": [{"name": "pasta", "quantity": 200, "unit": "g"}],
+		"instructions": "Boil the pasta.",
+		"cookTimeMinutes": 15,
+	}
+
+def converse_response(text, stop_reason="end_turn"):
+	return {
+		"output": {"message": {"content": [{"text": text}]}},
+		"usage": {"inputTokens": 100, "outputTokens": 50},
+		"stopReason": stop_reason,
+	}
+
+def test_parse_wraps_a_single_object_in_a_list():
+	assert BedrockService._parse_recipe_json(json.dumps(recipe("A"))) == [recipe("A")]
+
+def test_parse_keeps_every_item_of_an_array():
+	parsed = BedrockService._parse_recipe_json(json.dumps([recipe("A"), recipe("B")]))
+	assert [item["title"] for item in parsed] == ["A", "B"]
+
+def test_parse_keeps_complete_items_of_a_truncated_array():
+	text = json.dumps([recipe("A"), recipe("B")])[:-40]
+	parsed = BedrockService._parse_recipe_json(text, truncated=True)
+	assert [item["title"] for item in parsed] == ["A"]
+
+def test_parse_rejects_invalid_json_that_was_not_truncated():
+	text = json.dumps([recipe("A"), recipe("B")])[:-40]
+	with pytest.raises(json.JSONDecodeError):
+		BedrockService._parse_recipe_json(text)
+
+def test_parse_rejects_a_truncated_response_without_a_complete_recipe():
+	with pytest.raises(json.JSONDecodeError):
+		BedrockService._parse_recipe_json(json.dumps(recipe("A"))[:-10], truncated=True)
+
+@patch("app.services.bedrock_service.boto3.client")
+def test_generate_recipes_returns_the_requested_variants(client_factory):
+	client_factory.return_value.converse.return_value = converse_response(json.dumps([recipe("A"), recipe("B")]))
+
+	recipes = BedrockService().generate_recipes("pasta", "ITALIAN", count=2, exclude_titles=["C"])
+
+	assert [r.title for r in recipes] == ["A", "B"]
+	request = client_factory.return_value.converse.call_args.kwargs
+	assert request["inferenceConfig"]["maxTokens"] == 2 * BedrockService.MAX_TOKENS_PER_RECIPE
+	assert "These recipes already exist: C" in request["messages"][0]["content"][0]["text"]
+
+@patch("app.services.bedrock_service.boto3.client")
+def test_generate_recipes_returns_complete_recipes_when_output_hits_the_token_limit(client_factory):
+	text = json.dumps([recipe("A"), recipe("B"), recipe("C")])[:-40]
+	client_factory.return_value.converse.return_value = converse_response(text, stop_reason="max_tokens")
+
+	recipes = BedrockService().generate_recipes("pasta", "ITALIAN", count=3)
+
+	assert [r.title for r in recipes] == ["A", "B"]
@@ -15,3 +15,9 @@ def test_generate_recipe():
 	data = r.json()
 	assert "recipes" in data
 	assert isinstance(data["recipes"], list)
+
+def test_generate_recipe_rejects_invalid_count():
+	payload = {"prompt": "I have chicken and garlic", "cuisine": "INDIAN", "count": 0}
+	r = client.post("/api/v1/generate-recipe", json=payload)
+	assert r.status_code == 400
+	assert r.json()["code"] == "BAD_REQUEST"
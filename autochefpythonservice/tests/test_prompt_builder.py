@@ -0,0 +1,27 @@
+from app.services.prompt_builder import PromptBuilder
+
+builder = PromptBuilder()
+
+def test_single_recipe_asks_for_one_json_object():
+	prompt = builder.build_user_prompt("I have chicken and garlic", "INDIAN")
+	assert prompt.startswith("Create a recipe based on this request: I have chicken and garlic")
+	assert "valid JSON only" in prompt
+	assert "JSON array" not in prompt
+
+def test_several_recipes_ask_for_a_json_array_of_that_size():
+	prompt = builder.build_user_prompt("I have chicken and garlic", "INDIAN", count=3)
+	assert prompt.startswith("Create 3 distinct recipe variations")
+	assert "valid JSON array of exactly 3 recipe objects" in prompt
+
+def test_exclude_titles_are_listed_as_recipes_not_to_repeat():
+	prompt = builder.build_user_prompt("pasta", "ITALIAN", count=2, exclude_titles=["Garlic Pasta", "Pesto Pasta"])
+	assert "These recipes already exist: Garlic Pasta, Pesto Pasta" in prompt
+	assert "Do not repeat them" in prompt
+
+def test_no_exclude_titles_leaves_the_prompt_unchanged():
+	assert builder.build_user_prompt("pasta", "ITALIAN", exclude_titles=[]) == builder.build_user_prompt("pasta", "ITALIAN")
+
+def test_combined_prompt_starts_with_the_static_system_prefix():
+	combined = builder.build_combined_prompt("pasta", "ITALIAN", ["vegetarian"], count=2, exclude_titles=["Garlic Pasta"])
+	assert combined.startswith(builder.build_system_prompt())
+	assert combined.endswith(builder.build_user_prompt("pasta", "ITALIAN", ["vegetarian"], 2, ["Garlic Pasta"]))
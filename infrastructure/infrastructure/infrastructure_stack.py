@@ -141,10 +141,10 @@ class InfrastructureStack(Stack):
             protocol=elbv2.ApplicationProtocol.HTTP,
             target_type=elbv2.TargetType.IP,  # Required for Fargate
             health_check=elbv2.HealthCheck(
-                path="/actuator/health",  # Spring Boot Actuator health endpoint
+                path="/actuator/health/readiness",  # Ready only once connections are warmed up
                 healthy_http_codes="200",
-                interval=Duration.seconds(30),
-                timeout=Duration.seconds(10),
+                interval=Duration.seconds(10),  # New tasks take traffic sooner after scale-out
+                timeout=Duration.seconds(5),
                 healthy_threshold_count=2,
                 unhealthy_threshold_count=5
             )